@@ -53,6 +53,28 @@ public class BBEndpoint {
         BBEndpoint.ticketService = service;
     }
 
+    /**
+     * Operational counters, replaced by the Spring-managed instance when available.
+     */
+    private static BoardStats boardStats = new BoardStats();
+
+    @Autowired
+    public void setBoardStats(BoardStats stats) {
+        BBEndpoint.boardStats = stats;
+    }
+
+    /**
+     * Heartbeat tracker, replaced by the Spring-managed scheduled instance when available.
+     * The fallback is never ticked and writes on the calling thread, so it owns no threads.
+     */
+    private static SessionReaper sessionReaper =
+            new SessionReaper(1000, 10000, 30000, 10000, System::currentTimeMillis, Runnable::run);
+
+    @Autowired
+    public void setSessionReaper(SessionReaper reaper) {
+        BBEndpoint.sessionReaper = reaper;
+    }
+
     /**
      * Almacena si la sesión ya está autenticada
      */
@@ -65,7 +87,8 @@ public class BBEndpoint {
 
     /**
      * Called when a new WebSocket connection is established.
-     * Adds the session to the queue. Draw history is sent only after authentication.
+     * Adds the session to the queue and starts its authentication deadline.
+     * Draw history is sent only after authentication.
      *
      * @param session the session representing the new client connection
      * @param config the endpoint configuration
@@ -73,6 +96,9 @@ public class BBEndpoint {
     @OnOpen
     public void openConnection(Session session, EndpointConfig config) {
         queue.add(session);
+        boardStats.sessionOpened();
+        boardStats.consumerRegistered(session.getId());
+        sessionReaper.sessionOpened(session);
         ownSession = session;
         logger.log(Level.INFO, "Connection opened.");
         // No enviar historial hasta que esté autenticado
@@ -88,6 +114,8 @@ public class BBEndpoint {
      */
     @OnMessage
     public void processMessage(String message, Session session) {
+        boardStats.messageReceived();
+        sessionReaper.activity(session);
         if (!authenticated) {
             handleAuthentication(message, session);
             return;
@@ -106,8 +134,14 @@ public class BBEndpoint {
         String clientIp = session.getRequestURI().getHost(); // Ajusta si es necesario
 
         if (ticketService != null && ticketService.validateTicket(ticket, clientIp)) {
+            if (!sessionReaper.sessionAuthenticated(session)) {
+                // Reaped while the ticket was being validated; the close frame is already on its way.
+                return;
+            }
             authenticated = true;
-            authenticatedSessions.add(session);
+            if (authenticatedSessions.add(session)) {
+                boardStats.sessionAuthenticated();
+            }
             sendDrawHistory(session);
             sendInfoMessage(session, "Authenticated.");
         } else {
@@ -120,7 +154,7 @@ public class BBEndpoint {
         for (String event : drawHistory) {
             try {
                 System.out.println("Enviando evento: " + event);
-                session.getBasicRemote().sendText(event);
+                sendTimed(session, event);
             } catch (IOException e) {
                 logger.log(Level.SEVERE, "Error sending past message", e);
             }
@@ -129,7 +163,7 @@ public class BBEndpoint {
 
     private void sendInfoMessage(Session session, String message) {
         try {
-            session.getBasicRemote().sendText("{\"type\":\"info\",\"message\":\"" + message + "\"}");
+            sendTimed(session, "{\"type\":\"info\",\"message\":\"" + message + "\"}");
         } catch (IOException e) {
             logger.log(Level.SEVERE, "Error sending connection message", e);
         }
@@ -151,13 +185,24 @@ public class BBEndpoint {
         System.out.println("Message received: " + message);
 
         if (message.contains("\"type\":\"clear\"")) {
-            drawHistory.clear();
+            clearDrawHistory();
         } else {
-            drawHistory.add(message);
+            addDrawHistory(message);
         }
     }
 
 
+    /**
+     * Handles pong replies to the heartbeat pings sent by {@link SessionReaper}.
+     *
+     * @param pong the pong message
+     * @param session the session that answered
+     */
+    @OnMessage
+    public void processPong(PongMessage pong, Session session) {
+        sessionReaper.activity(session);
+    }
+
     /**
      * Called when a WebSocket connection is closed.
      * Removes the session from the queue.
@@ -166,8 +211,8 @@ public class BBEndpoint {
      */
     @OnClose
     public void closedConnection(Session session) {
-        queue.remove(session);
-        authenticatedSessions.remove(session);
+        removeSession(session);
+        sessionReaper.sessionClosed(session);
         logger.log(Level.INFO, "Connection closed.");
     }
 
@@ -180,11 +225,41 @@ public class BBEndpoint {
      */
     @OnError
     public void error(Session session, Throwable t) {
-        queue.remove(session);
-        authenticatedSessions.remove(session);
+        removeSession(session);
+        sessionReaper.sessionClosed(session);
         logger.log(Level.SEVERE, "Connection error.", t);
     }
 
+    /**
+     * Removes the session from the fan-out sets and updates the counters.
+     * Heartbeat tracking is left to the caller, so the reaper can keep remembering
+     * a session it reaped until the close is reported.
+     *
+     * @param session the session to remove
+     */
+    static void removeSession(Session session) {
+        if (queue.remove(session)) {
+            boardStats.sessionClosed();
+        }
+        if (authenticatedSessions.remove(session)) {
+            boardStats.authenticatedSessionClosed();
+        }
+        boardStats.consumerRemoved(session.getId());
+    }
+
+    /**
+     * Sends a message to the given session, recording the outbound rate and write latency.
+     *
+     * @param session the receiving session
+     * @param msg the message to send
+     * @throws IOException if the write fails
+     */
+    private static void sendTimed(Session session, String msg) throws IOException {
+        long start = System.nanoTime();
+        session.getBasicRemote().sendText(msg);
+        boardStats.messageSent(session.getId(), System.nanoTime() - start);
+    }
+
     /**
      * Sends a message to all connected clients except the sender.
      *
@@ -194,7 +269,7 @@ public class BBEndpoint {
         for (Session session : queue) {
             if (!session.equals(this.ownSession)) {
                 try {
-                    session.getBasicRemote().sendText(msg);
+                    sendTimed(session, msg);
                 } catch (IOException e) {
                     logger.log(Level.WARNING, "Error sending message", e);
                 }
@@ -209,7 +284,7 @@ public class BBEndpoint {
         for (Session s : authenticatedSessions) {
             if (!s.equals(sender)) {
                 try {
-                    s.getBasicRemote().sendText(msg);
+                    sendTimed(s, msg);
                 } catch (IOException e) {
                     logger.log(Level.WARNING, "Error sending chat message", e);
                 }
@@ -242,9 +317,11 @@ public class BBEndpoint {
      */
     public static void clearDrawHistory() {
         drawHistory.clear();
+        boardStats.historyCleared();
     }
     public static void addDrawHistory(String event) {
         drawHistory.add(event);
+        boardStats.historyAppended(event);
     }
     public static boolean containsDrawHistory(String event) {
         return drawHistory.contains(event);
@@ -254,10 +331,12 @@ public class BBEndpoint {
     }
     public static void clearQueue() {
         queue.clear();
+        boardStats.sessionsCleared();
     }
 
     public static void addToQueue(Session session) {
         queue.add(session);
+        boardStats.sessionOpened();
     }
 
     public static boolean queueContains(Session session) {
@@ -0,0 +1,48 @@
+package edu.demo.board;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller exposing live operational statistics of the drawing board.
+ * The snapshot is built from counters maintained by the endpoint, so serving it
+ * does not iterate the connected sessions or the draw history.
+ */
+@RestController
+@RequestMapping("/api/admin/stats")
+public class BBStatsController {
+
+    private final BoardStats boardStats;
+    private final TicketService ticketService;
+    private final SessionReaper sessionReaper;
+
+    /**
+     * Constructs the controller with the given stats, ticket service and session reaper.
+     * @param boardStats the board counters
+     * @param ticketService the ticket service, for its Redis metrics
+     * @param sessionReaper the session reaper, for its heartbeat metrics
+     */
+    public BBStatsController(BoardStats boardStats, TicketService ticketService, SessionReaper sessionReaper) {
+        this.boardStats = boardStats;
+        this.ticketService = ticketService;
+        this.sessionReaper = sessionReaper;
+    }
+
+    /**
+     * Returns per-board session counts, history size, message rates and slowest consumers,
+     * along with the ticket service and heartbeat metrics.
+     *
+     * @return a map with the "boards", "tickets" and "heartbeat" sections
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("boards", List.of(boardStats.snapshot()));
+        stats.put("tickets", ticketService.getMetrics());
+        stats.put("heartbeat", sessionReaper.getMetrics());
+        return ResponseEntity.ok(stats);
+    }
+}
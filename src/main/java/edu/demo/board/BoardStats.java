@@ -0,0 +1,285 @@
+package edu.demo.board;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Operational counters for the drawing board.
+ * The endpoint updates these counters as sessions open, authenticate and close,
+ * as history grows and as messages flow, so a snapshot can be taken without
+ * iterating the session queue or the draw history.
+ */
+@Component
+public class BoardStats {
+
+    /**
+     * Identifier of the single board served by {@link BBEndpoint}.
+     */
+    public static final String BOARD_ID = "bbService";
+
+    /**
+     * Approximate per-event overhead of the draw history: list slot, String header and backing array header.
+     */
+    static final long HISTORY_EVENT_OVERHEAD_BYTES = 48;
+
+    /**
+     * Sliding windows, in seconds, over which message rates are reported.
+     */
+    static final int[] RATE_WINDOWS = {1, 10, 60};
+
+    /**
+     * Number of slowest consumers kept in the leaderboard.
+     */
+    static final int SLOWEST_CONSUMERS = 5;
+
+    /**
+     * Only one send in this many per consumer is offered to the leaderboard,
+     * so the fan-out path rarely touches its lock.
+     */
+    static final int LEADERBOARD_SAMPLE_INTERVAL = 16;
+
+    private final LongAdder connectedSessions = new LongAdder();
+    private final LongAdder authenticatedSessions = new LongAdder();
+    private final LongAdder historyEvents = new LongAdder();
+    private final LongAdder historyChars = new LongAdder();
+    private final LongAdder historyStorageBytes = new LongAdder();
+    private final SlidingWindowCounter inbound;
+    private final SlidingWindowCounter outbound;
+
+    /**
+     * Per-session send latency, keyed by session id.
+     * Entries are created on open only, so a send racing with close cannot bring one back.
+     */
+    private final Map<String, ConsumerStats> consumers = new ConcurrentHashMap<>();
+
+    /**
+     * Leaderboard of the slowest consumers, guarded by its own monitor.
+     * It is updated from sampled sends only, and {@link #slowestFloorNanos} lets those
+     * samples skip the lock for consumers that would not qualify.
+     */
+    private final Map<String, Long> slowest = new LinkedHashMap<>();
+    private final Set<String> onLeaderboard = ConcurrentHashMap.newKeySet();
+    private volatile long slowestFloorNanos = 0;
+
+    /**
+     * Constructs the stats with counters driven by the system clock.
+     */
+    public BoardStats() {
+        this(new SlidingWindowCounter(60), new SlidingWindowCounter(60));
+    }
+
+    /**
+     * Constructs the stats with the given rate counters.
+     * @param inbound counter of messages received from clients
+     * @param outbound counter of messages sent to clients
+     */
+    public BoardStats(SlidingWindowCounter inbound, SlidingWindowCounter outbound) {
+        this.inbound = inbound;
+        this.outbound = outbound;
+    }
+
+    public void sessionOpened() {
+        connectedSessions.increment();
+    }
+
+    public void sessionClosed() {
+        connectedSessions.decrement();
+    }
+
+    public void sessionsCleared() {
+        connectedSessions.reset();
+    }
+
+    public void sessionAuthenticated() {
+        authenticatedSessions.increment();
+    }
+
+    public void authenticatedSessionClosed() {
+        authenticatedSessions.decrement();
+    }
+
+    public void historyAppended(String event) {
+        historyEvents.increment();
+        historyChars.add(event.length());
+        historyStorageBytes.add(storageBytes(event));
+    }
+
+    public void historyCleared() {
+        historyEvents.reset();
+        historyChars.reset();
+        historyStorageBytes.reset();
+    }
+
+    public void messageReceived() {
+        inbound.increment();
+    }
+
+    /**
+     * Starts tracking the send latency of a newly opened session.
+     *
+     * @param sessionId the opened session id
+     */
+    public void consumerRegistered(String sessionId) {
+        consumers.putIfAbsent(sessionId, new ConsumerStats());
+    }
+
+    /**
+     * Records a message sent to a client and how long the write took.
+     * Sends to sessions that are not registered, or already removed, only count towards the rate.
+     *
+     * @param sessionId the receiving session id
+     * @param nanos the time spent in the blocking send
+     */
+    public void messageSent(String sessionId, long nanos) {
+        outbound.increment();
+        ConsumerStats stats = consumers.get(sessionId);
+        if (stats == null) {
+            return;
+        }
+        long average = stats.record(nanos);
+        if (stats.nextSendSampled() && (average > slowestFloorNanos || onLeaderboard.contains(sessionId))) {
+            updateSlowest(sessionId, average);
+        }
+    }
+
+    /**
+     * Forgets the send statistics of a closed session.
+     *
+     * @param sessionId the closed session id
+     */
+    public void consumerRemoved(String sessionId) {
+        synchronized (slowest) {
+            consumers.remove(sessionId);
+            if (slowest.remove(sessionId) != null) {
+                onLeaderboard.remove(sessionId);
+                slowestFloorNanos = slowest.size() < SLOWEST_CONSUMERS ? 0 : minSlowest();
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the board counters.
+     *
+     * @return an ordered map suitable for JSON serialization
+     */
+    public Map<String, Object> snapshot() {
+        long connected = Math.max(0, connectedSessions.sum());
+        long authenticated = Math.max(0, authenticatedSessions.sum());
+        long events = Math.max(0, historyEvents.sum());
+        long chars = Math.max(0, historyChars.sum());
+        long storage = Math.max(0, historyStorageBytes.sum());
+
+        Map<String, Object> board = new LinkedHashMap<>();
+        board.put("board", BOARD_ID);
+        board.put("sessions", connected);
+        board.put("authenticatedSessions", authenticated);
+        board.put("pendingSessions", Math.max(0, connected - authenticated));
+        board.put("historyEvents", events);
+        board.put("historyChars", chars);
+        board.put("historyMemoryEstimateBytes", storage + events * HISTORY_EVENT_OVERHEAD_BYTES);
+        board.put("inboundPerSecond", rates(inbound));
+        board.put("outboundPerSecond", rates(outbound));
+        board.put("slowestConsumers", slowestConsumers());
+        return board;
+    }
+
+    private Map<String, Double> rates(SlidingWindowCounter counter) {
+        Map<String, Double> rates = new LinkedHashMap<>();
+        for (int window : RATE_WINDOWS) {
+            rates.put(window + "s", counter.rate(window));
+        }
+        return rates;
+    }
+
+    private List<Map<String, Object>> slowestConsumers() {
+        List<Map.Entry<String, Long>> entries;
+        synchronized (slowest) {
+            entries = new ArrayList<>();
+            for (Map.Entry<String, Long> entry : slowest.entrySet()) {
+                entries.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+        entries.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()));
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : entries) {
+            Map<String, Object> consumer = new LinkedHashMap<>();
+            consumer.put("session", entry.getKey());
+            consumer.put("avgSendMicros", TimeUnit.NANOSECONDS.toMicros(entry.getValue()));
+            result.add(consumer);
+        }
+        return result;
+    }
+
+    private void updateSlowest(String sessionId, long average) {
+        synchronized (slowest) {
+            if (!consumers.containsKey(sessionId)) {
+                return;
+            }
+            slowest.put(sessionId, average);
+            onLeaderboard.add(sessionId);
+            if (slowest.size() > SLOWEST_CONSUMERS) {
+                String fastest = null;
+                long fastestNanos = Long.MAX_VALUE;
+                for (Map.Entry<String, Long> entry : slowest.entrySet()) {
+                    if (entry.getValue() < fastestNanos) {
+                        fastest = entry.getKey();
+                        fastestNanos = entry.getValue();
+                    }
+                }
+                slowest.remove(fastest);
+                onLeaderboard.remove(fastest);
+            }
+            slowestFloorNanos = slowest.size() < SLOWEST_CONSUMERS ? 0 : minSlowest();
+        }
+    }
+
+    /**
+     * Size of the string's backing array with compact strings: one byte per char when every
+     * char fits in Latin-1, two otherwise.
+     */
+    private static long storageBytes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                return 2L * value.length();
+            }
+        }
+        return value.length();
+    }
+
+    private long minSlowest() {
+        long min = Long.MAX_VALUE;
+        for (long nanos : slowest.values()) {
+            min = Math.min(min, nanos);
+        }
+        return min;
+    }
+
+    /**
+     * Exponentially weighted average of one consumer's send latency.
+     */
+    static final class ConsumerStats {
+        private final AtomicLong averageNanos = new AtomicLong(-1);
+        private final AtomicLong sends = new AtomicLong();
+
+        long record(long nanos) {
+            return averageNanos.updateAndGet(avg -> avg < 0 ? nanos : avg + (nanos - avg) / 8);
+        }
+
+        /**
+         * @return true for the first send and every {@link #LEADERBOARD_SAMPLE_INTERVAL}-th one after it
+         */
+        boolean nextSendSampled() {
+            return sends.getAndIncrement() % LEADERBOARD_SAMPLE_INTERVAL == 0;
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package edu.demo.board;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Heartbeat scheduler that sheds dead WebSocket connections.
+ * Sessions that do not authenticate within the auth deadline are closed, and authenticated
+ * sessions are pinged after a period of silence and closed if the pong does not arrive in time.
+ * Deadlines are tracked in a {@link TimingWheel}, so each tick only looks at the sessions
+ * that are actually due instead of scanning every connection.
+ * The tick only updates bookkeeping and drops reaped sessions from the fan-out sets; pings and
+ * close frames are written on a separate executor, because both block on the session's send lock
+ * and the peers being reaped are exactly the ones whose writes stall.
+ */
+@Component
+public class SessionReaper {
+
+    private static final Logger logger = Logger.getLogger(SessionReaper.class.getName());
+
+    private static final int WHEEL_SLOTS = 64;
+
+    private static final ByteBuffer PING_PAYLOAD = ByteBuffer.wrap("ping".getBytes(StandardCharsets.UTF_8));
+
+    /**
+     * Heartbeat state of one session. The deadline is the only field the wheel reads.
+     * Authentication and reaping synchronize on the heartbeat, so a session is either
+     * authenticated or reaped, never both.
+     */
+    static final class Heartbeat {
+        final Session session;
+        volatile long deadline;
+        volatile boolean authenticated;
+        volatile boolean awaitingPong;
+        volatile boolean reaped;
+
+        Heartbeat(Session session, long deadline) {
+            this.session = session;
+            this.deadline = deadline;
+        }
+    }
+
+    private final long authTimeoutMillis;
+    private final long pingIntervalMillis;
+    private final long pongTimeoutMillis;
+    private final LongSupplier clock;
+    private final TimingWheel<Heartbeat> wheel;
+
+    /**
+     * Executor for the blocking ping and close writes.
+     */
+    private final Executor io;
+
+    /**
+     * The executor created by this reaper, shut down with it; null when one was supplied.
+     */
+    private final ExecutorService ownedIo;
+
+    /**
+     * Tracked sessions, keyed by session id.
+     */
+    private final Map<String, Heartbeat> heartbeats = new ConcurrentHashMap<>();
+
+    /**
+     * Reaped sessions whose close has not been reported yet, keyed by session id.
+     * An entry is dropped when the close is reported, or one ping interval after the reap at the latest.
+     */
+    private final Map<String, Heartbeat> closing = new ConcurrentHashMap<>();
+
+    private final LongAdder pingsSent = new LongAdder();
+    private final LongAdder reapedUnauthenticated = new LongAdder();
+    private final LongAdder reapedMissedPong = new LongAdder();
+
+    /**
+     * Constructs the reaper with the configured timeouts and the system clock.
+     * @param tickMillis the scheduler period and wheel slot duration
+     * @param authTimeoutMillis how long a session may stay unauthenticated
+     * @param pingIntervalMillis how long an authenticated session may stay silent before being pinged
+     * @param pongTimeoutMillis how long to wait for the pong before closing the session
+     * @param ioThreads number of threads writing pings and close frames
+     */
+    @Autowired
+    public SessionReaper(@Value("${session.heartbeat.tick-ms:1000}") long tickMillis,
+                         @Value("${session.heartbeat.auth-timeout-ms:10000}") long authTimeoutMillis,
+                         @Value("${session.heartbeat.ping-interval-ms:30000}") long pingIntervalMillis,
+                         @Value("${session.heartbeat.pong-timeout-ms:10000}") long pongTimeoutMillis,
+                         @Value("${session.heartbeat.io-threads:4}") int ioThreads) {
+        this(tickMillis, authTimeoutMillis, pingIntervalMillis, pongTimeoutMillis,
+                System::currentTimeMillis, newIoExecutor(ioThreads), true);
+    }
+
+    /**
+     * Constructs the reaper with the given timeouts and clock.
+     * @param tickMillis the wheel slot duration
+     * @param authTimeoutMillis how long a session may stay unauthenticated
+     * @param pingIntervalMillis how long an authenticated session may stay silent before being pinged
+     * @param pongTimeoutMillis how long to wait for the pong before closing the session
+     * @param clock supplier of the current time in milliseconds
+     * @param io executor for the blocking ping and close writes
+     */
+    public SessionReaper(long tickMillis, long authTimeoutMillis, long pingIntervalMillis,
+                         long pongTimeoutMillis, LongSupplier clock, Executor io) {
+        this(tickMillis, authTimeoutMillis, pingIntervalMillis, pongTimeoutMillis, clock, io, false);
+    }
+
+    private SessionReaper(long tickMillis, long authTimeoutMillis, long pingIntervalMillis,
+                          long pongTimeoutMillis, LongSupplier clock, Executor io, boolean ownsIo) {
+        this.io = io;
+        this.ownedIo = ownsIo ? (ExecutorService) io : null;
+        this.authTimeoutMillis = authTimeoutMillis;
+        this.pingIntervalMillis = pingIntervalMillis;
+        this.pongTimeoutMillis = pongTimeoutMillis;
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(tickMillis, WHEEL_SLOTS, h -> h.deadline, clock.getAsLong());
+    }
+
+    /**
+     * Starts tracking a newly opened session, which must authenticate before the auth deadline.
+     *
+     * @param session the opened session
+     */
+    public void sessionOpened(Session session) {
+        Heartbeat heartbeat = new Heartbeat(session, clock.getAsLong() + authTimeoutMillis);
+        heartbeats.put(session.getId(), heartbeat);
+        wheel.schedule(heartbeat);
+    }
+
+    /**
+     * Marks the session as authenticated and switches it to ping/pong tracking.
+     * A session that has already been reaped stays reaped: its close frame may still be
+     * on its way, and the caller must not let it join the board.
+     *
+     * @param session the authenticated session
+     * @return false if the session has been reaped, true otherwise
+     */
+    public boolean sessionAuthenticated(Session session) {
+        Heartbeat heartbeat = heartbeats.get(session.getId());
+        if (heartbeat == null) {
+            return !closing.containsKey(session.getId());
+        }
+        synchronized (heartbeat) {
+            if (heartbeat.reaped) {
+                return false;
+            }
+            heartbeat.authenticated = true;
+            heartbeat.awaitingPong = false;
+            heartbeat.deadline = clock.getAsLong() + pingIntervalMillis;
+            return true;
+        }
+    }
+
+    /**
+     * Records activity from an authenticated session, pushing its next ping back.
+     * A pong or any other message counts as proof that the connection is alive.
+     *
+     * @param session the active session
+     */
+    public void activity(Session session) {
+        Heartbeat heartbeat = heartbeats.get(session.getId());
+        if (heartbeat != null && heartbeat.authenticated) {
+            heartbeat.awaitingPong = false;
+            heartbeat.deadline = clock.getAsLong() + pingIntervalMillis;
+        }
+    }
+
+    /**
+     * Stops tracking a closed session.
+     *
+     * @param session the closed session
+     */
+    public void sessionClosed(Session session) {
+        heartbeats.remove(session.getId());
+        closing.remove(session.getId());
+    }
+
+    /**
+     * Advances the wheel and handles every session whose deadline has passed.
+     * A failure on one session, such as the I/O executor rejecting its close, is logged
+     * and does not keep the other due sessions from being handled.
+     */
+    @Scheduled(fixedRateString = "${session.heartbeat.tick-ms:1000}")
+    public void tick() {
+        long now = clock.getAsLong();
+        wheel.advance(now, heartbeat -> {
+            try {
+                expire(heartbeat, now);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Error expiring session heartbeat", e);
+            }
+        });
+    }
+
+    /**
+     * Returns the reaper counters.
+     *
+     * @return an ordered map of metric name to value
+     */
+    public Map<String, Long> getMetrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("trackedSessions", (long) heartbeats.size());
+        metrics.put("pingsSent", pingsSent.sum());
+        metrics.put("reapedUnauthenticated", reapedUnauthenticated.sum());
+        metrics.put("reapedMissedPong", reapedMissedPong.sum());
+        return metrics;
+    }
+
+    private void expire(Heartbeat heartbeat, long now) {
+        String id = heartbeat.session.getId();
+        synchronized (heartbeat) {
+            if (heartbeat.reaped) {
+                closing.remove(id, heartbeat);
+                return;
+            }
+            if (heartbeats.get(id) != heartbeat) {
+                return;
+            }
+            if (heartbeat.deadline > now) {
+                // Authenticated or active since the wheel checked the deadline.
+                wheel.schedule(heartbeat);
+                return;
+            }
+            if (!heartbeat.authenticated) {
+                reap(heartbeat, reapedUnauthenticated, CloseReason.CloseCodes.VIOLATED_POLICY, "Authentication timeout");
+            } else if (heartbeat.awaitingPong) {
+                reap(heartbeat, reapedMissedPong, CloseReason.CloseCodes.GOING_AWAY, "Heartbeat timeout");
+            } else {
+                ping(heartbeat, now);
+            }
+        }
+    }
+
+    /**
+     * Arms the pong deadline and hands the ping write to the I/O executor.
+     * If the ping cannot be sent the session is reaped from the I/O thread.
+     */
+    private void ping(Heartbeat heartbeat, long now) {
+        heartbeat.awaitingPong = true;
+        heartbeat.deadline = now + pongTimeoutMillis;
+        wheel.schedule(heartbeat);
+        io.execute(() -> {
+            try {
+                heartbeat.session.getBasicRemote().sendPing(PING_PAYLOAD.duplicate());
+                pingsSent.increment();
+            } catch (IOException | RuntimeException e) {
+                logger.log(Level.FINE, "Error sending ping", e);
+                reap(heartbeat, reapedMissedPong, CloseReason.CloseCodes.GOING_AWAY, "Heartbeat failed");
+            }
+        });
+    }
+
+    /**
+     * Stops tracking the session and drops it from the fan-out sets right away,
+     * then hands the close frame to the I/O executor. The session is remembered as closing
+     * until the close is reported, so a late ticket cannot authenticate it in the meantime.
+     */
+    private void reap(Heartbeat heartbeat, LongAdder counter, CloseReason.CloseCode code, String reason) {
+        Session session = heartbeat.session;
+        synchronized (heartbeat) {
+            if (heartbeat.reaped || !heartbeats.remove(session.getId(), heartbeat)) {
+                return;
+            }
+            heartbeat.reaped = true;
+            heartbeat.deadline = clock.getAsLong() + pingIntervalMillis;
+            closing.put(session.getId(), heartbeat);
+            wheel.schedule(heartbeat);
+        }
+        counter.increment();
+        BBEndpoint.removeSession(session);
+        logger.log(Level.INFO, "Reaping session: {0}", reason);
+        io.execute(() -> {
+            try {
+                session.close(new CloseReason(code, reason));
+            } catch (IOException | RuntimeException e) {
+                logger.log(Level.FINE, "Error closing reaped session", e);
+            }
+        });
+    }
+
+    /**
+     * Stops the I/O threads created by this reaper.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (ownedIo != null) {
+            ownedIo.shutdownNow();
+        }
+    }
+
+    private static ExecutorService newIoExecutor(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "session-reaper-io-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
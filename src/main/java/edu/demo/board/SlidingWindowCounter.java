@@ -0,0 +1,105 @@
+package edu.demo.board;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Event counter over a sliding window of one-second buckets.
+ * Each bucket is a striped {@link LongAdder} tagged with the second it belongs to,
+ * so recording an event never locks and reading a rate only touches the buckets of the window.
+ * Reads only cover completed seconds; the second in progress is left out so a rate
+ * does not drop at every second boundary.
+ * Counts are approximate while a bucket is being recycled, which is fine for monitoring.
+ */
+public class SlidingWindowCounter {
+
+    private final int seconds;
+    private final int buckets;
+    private final LongSupplier clock;
+    private final AtomicLongArray stamps;
+    private final LongAdder[] counts;
+
+    /**
+     * Constructs a counter using the system clock.
+     * @param seconds the longest window, in seconds, that can be queried
+     */
+    public SlidingWindowCounter(int seconds) {
+        this(seconds, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs a counter using the given clock.
+     * @param seconds the longest window, in seconds, that can be queried
+     * @param clock supplier of the current time in milliseconds
+     */
+    public SlidingWindowCounter(int seconds, LongSupplier clock) {
+        this.seconds = seconds;
+        // One extra bucket for the second in progress, so a full window of completed seconds fits.
+        this.buckets = seconds + 1;
+        this.clock = clock;
+        this.stamps = new AtomicLongArray(buckets);
+        this.counts = new LongAdder[buckets];
+        for (int i = 0; i < buckets; i++) {
+            stamps.set(i, -1);
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one event in the current second.
+     */
+    public void increment() {
+        add(1);
+    }
+
+    /**
+     * Records the given number of events in the current second.
+     *
+     * @param n the number of events
+     */
+    public void add(long n) {
+        long now = currentSecond();
+        int i = (int) (now % buckets);
+        long stamp = stamps.get(i);
+        if (stamp != now && stamps.compareAndSet(i, stamp, now)) {
+            counts[i].reset();
+        }
+        counts[i].add(n);
+    }
+
+    /**
+     * Returns the number of events recorded in the last {@code window} completed seconds.
+     *
+     * @param window the window length in seconds, capped at the counter size
+     * @return the event count
+     */
+    public long sum(int window) {
+        long now = currentSecond();
+        long total = 0;
+        for (int k = 1; k <= Math.min(window, seconds); k++) {
+            long second = now - k;
+            int i = (int) (second % buckets);
+            if (stamps.get(i) == second) {
+                total += counts[i].sum();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Returns the average number of events per second over the last {@code window} completed seconds.
+     *
+     * @param window the window length in seconds, capped at the counter size
+     * @return events per second
+     */
+    public double rate(int window) {
+        int length = Math.min(window, seconds);
+        return length <= 0 ? 0 : (double) sum(length) / length;
+    }
+
+    private long currentSecond() {
+        return TimeUnit.MILLISECONDS.toSeconds(clock.getAsLong());
+    }
+}
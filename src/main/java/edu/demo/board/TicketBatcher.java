@@ -0,0 +1,215 @@
+package edu.demo.board;
+
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Coalesces concurrent ticket operations into pipelined Redis batches.
+ * Operations are queued and flushed by a single background thread either when
+ * the batching window elapses or when the queue reaches the maximum batch size,
+ * so a burst of connections costs one round-trip per batch instead of one per ticket.
+ */
+class TicketBatcher {
+
+    private static final Logger logger = Logger.getLogger(TicketBatcher.class.getName());
+
+    /**
+     * Kind of ticket operation queued for the next pipeline.
+     */
+    enum Kind { ISSUE, REDEEM }
+
+    /**
+     * A queued operation and the future completed with its pipeline result.
+     * The claim flag is set exactly once, either by the batcher when it puts the op in a
+     * pipeline or by the caller when it gives up, so an op that reaches Redis is never cancelled.
+     */
+    record Op(Kind kind, String key, String value, long ttlSeconds,
+              CompletableFuture<Object> result, AtomicBoolean claimed) {
+
+        Op(Kind kind, String key, String value, long ttlSeconds) {
+            this(kind, key, value, ttlSeconds, new CompletableFuture<>(), new AtomicBoolean(false));
+        }
+
+        /**
+         * Cancels the op if no pipeline has claimed it yet.
+         *
+         * @return true if the op was cancelled and will not run; false if it is already in a pipeline
+         */
+        boolean cancel() {
+            if (claimed.compareAndSet(false, true)) {
+                result.cancel(false);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final BlockingQueue<Op> pending = new LinkedBlockingQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final ScheduledExecutorService flusher;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedOps = new LongAdder();
+    private final LongAdder skippedOps = new LongAdder();
+    private final LongAdder pipelineNanos = new LongAdder();
+    private final AtomicLong maxPipelineNanos = new AtomicLong();
+
+    /**
+     * Constructs the batcher.
+     * @param redisTemplate the Redis template used to run the pipelines
+     * @param windowMillis how long to wait for more operations before flushing
+     * @param maxBatchSize the maximum number of operations per pipeline
+     */
+    TicketBatcher(StringRedisTemplate redisTemplate, long windowMillis, int maxBatchSize) {
+        this.redisTemplate = redisTemplate;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ticket-batcher");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Queues a SET with expiry for the given ticket.
+     *
+     * @return the queued op, whose future is completed with the Redis reply once the batch is flushed
+     */
+    Op issue(String ticket, String value, long ttlSeconds) {
+        return submit(new Op(Kind.ISSUE, ticket, value, ttlSeconds));
+    }
+
+    /**
+     * Queues an atomic GETDEL for the given ticket.
+     *
+     * @return the queued op, whose future is completed with the stored value, or null if the ticket did not exist
+     */
+    Op redeem(String ticket) {
+        return submit(new Op(Kind.REDEEM, ticket, null, 0));
+    }
+
+    private Op submit(Op op) {
+        pending.add(op);
+        if (pending.size() >= maxBatchSize) {
+            flusher.execute(this::flush);
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            flusher.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+        }
+        return op;
+    }
+
+    /**
+     * Drains the pending queue and runs it as one or more pipelines.
+     */
+    void flush() {
+        flushScheduled.set(false);
+        List<Op> batch = new ArrayList<>(maxBatchSize);
+        while (pending.drainTo(batch, maxBatchSize) > 0) {
+            execute(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Runs the batch as one pipeline, skipping operations whose caller already gave up,
+     * so a timed-out redeem does not consume the ticket and a timed-out issue does not store one.
+     * Every op that is kept is claimed first, so its caller can no longer cancel it.
+     */
+    private void execute(List<Op> drained) {
+        List<Op> batch = new ArrayList<>(drained.size());
+        for (Op op : drained) {
+            if (!op.claimed().compareAndSet(false, true)) {
+                skippedOps.increment();
+            } else {
+                batch.add(op);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                RedisStringCommands commands = connection.stringCommands();
+                for (Op op : batch) {
+                    byte[] key = op.key().getBytes(StandardCharsets.UTF_8);
+                    if (op.kind() == Kind.ISSUE) {
+                        commands.set(key, op.value().getBytes(StandardCharsets.UTF_8),
+                                Expiration.seconds(op.ttlSeconds()), RedisStringCommands.SetOption.upsert());
+                    } else {
+                        commands.getDel(key);
+                    }
+                }
+                return null;
+            });
+            long elapsed = System.nanoTime() - start;
+            pipelineNanos.add(elapsed);
+            maxPipelineNanos.accumulateAndGet(elapsed, Math::max);
+            batches.increment();
+            batchedOps.add(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(i < replies.size() ? replies.get(i) : null);
+            }
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Error executing ticket pipeline", e);
+            for (Op op : batch) {
+                op.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    long getBatches() {
+        return batches.sum();
+    }
+
+    long getBatchedOps() {
+        return batchedOps.sum();
+    }
+
+    long getSkippedOps() {
+        return skippedOps.sum();
+    }
+
+    /**
+     * @return total time spent in pipeline round-trips, in nanoseconds
+     */
+    long getPipelineNanos() {
+        return pipelineNanos.sum();
+    }
+
+    /**
+     * @return the slowest pipeline round-trip, in nanoseconds
+     */
+    long getMaxPipelineNanos() {
+        return maxPipelineNanos.get();
+    }
+
+    /**
+     * Flushes whatever is still queued and stops the background thread.
+     */
+    void shutdown() {
+        flusher.execute(this::flush);
+        flusher.shutdown();
+    }
+}
@@ -1,24 +1,95 @@
 package edu.demo.board;
 
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.stereotype.Service;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
 
 /**
  * Service for generating and validating one-time-use tickets for WebSocket authentication.
+ * When a batching window is configured, concurrent calls are coalesced into pipelined
+ * Redis batches by a {@link TicketBatcher}. Tickets are redeemed with an atomic GETDEL,
+ * and malformed or recently rejected tickets are refused locally without touching Redis.
  */
 @Service
 public class TicketService {
+
+    private static final Logger logger = Logger.getLogger(TicketService.class.getName());
+
+    private static final long TICKET_TTL_MINUTES = 5;
+
+    private static final Pattern UUID_PATTERN =
+            Pattern.compile("^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$");
+
     private final StringRedisTemplate redisTemplate;
 
     /**
-     * Constructs the TicketService with the given Redis template.
+     * Pipelined batcher, or null when batching is disabled.
+     */
+    private final TicketBatcher batcher;
+
+    private final long timeoutMillis;
+    private final long negativeTtlNanos;
+    private final int negativeMaxEntries;
+
+    /**
+     * Tickets recently found missing in Redis, mapped to the nano time at which the entry expires.
+     */
+    private final Map<String, Long> recentlyRejected = new ConcurrentHashMap<>();
+
+    private final LongAdder issued = new LongAdder();
+    private final LongAdder validated = new LongAdder();
+    private final LongAdder rejectedMalformed = new LongAdder();
+    private final LongAdder rejectedCached = new LongAdder();
+    private final LongAdder rejectedRedis = new LongAdder();
+    private final LongAdder redisErrors = new LongAdder();
+    private final LongAdder callerCalls = new LongAdder();
+    private final LongAdder callerWaitNanos = new LongAdder();
+    private final AtomicLong callerMaxWaitNanos = new AtomicLong();
+
+    /**
+     * Constructs the TicketService with the given Redis template and no batching.
      * @param redisTemplate the Redis template for string operations
      */
     public TicketService(StringRedisTemplate redisTemplate) {
+        this(redisTemplate, 0, 1, 2000, 30000, 10000);
+    }
+
+    /**
+     * Constructs the TicketService with the given Redis template and batching settings.
+     * @param redisTemplate the Redis template for string operations
+     * @param windowMillis batching window in milliseconds; 0 or less disables batching
+     * @param maxBatchSize maximum number of commands per pipeline
+     * @param timeoutMillis how long a caller waits for its batch to be flushed
+     * @param negativeTtlMillis how long a rejected ticket is remembered locally
+     * @param negativeMaxEntries maximum number of remembered rejected tickets
+     */
+    @Autowired
+    public TicketService(StringRedisTemplate redisTemplate,
+                         @Value("${ticket.batch.window-ms:2}") long windowMillis,
+                         @Value("${ticket.batch.max-size:64}") int maxBatchSize,
+                         @Value("${ticket.batch.timeout-ms:2000}") long timeoutMillis,
+                         @Value("${ticket.negative-cache.ttl-ms:30000}") long negativeTtlMillis,
+                         @Value("${ticket.negative-cache.max-entries:10000}") int negativeMaxEntries) {
         this.redisTemplate = redisTemplate;
+        this.batcher = windowMillis > 0 ? new TicketBatcher(redisTemplate, windowMillis, maxBatchSize) : null;
+        this.timeoutMillis = timeoutMillis;
+        this.negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMillis);
+        this.negativeMaxEntries = negativeMaxEntries;
     }
 
     /**
@@ -32,28 +103,164 @@ public class TicketService {
     public String generateTicket(String userId, String clientIp) {
         String ticket = UUID.randomUUID().toString();
         String value = userId + ":" + clientIp;
-        redisTemplate.opsForValue().set(ticket, value, 5, TimeUnit.MINUTES);
-        System.out.println("<UNK>" + ticket);
+        long start = System.nanoTime();
+        try {
+            if (batcher != null) {
+                await(batcher.issue(ticket, value, TimeUnit.MINUTES.toSeconds(TICKET_TTL_MINUTES)));
+            } else {
+                redisTemplate.opsForValue().set(ticket, value, TICKET_TTL_MINUTES, TimeUnit.MINUTES);
+            }
+        } catch (RuntimeException e) {
+            redisErrors.increment();
+            throw e;
+        } finally {
+            recordWait(start);
+        }
+        issued.increment();
         return ticket;
     }
 
     /**
      * Validates the given ticket for the specified client IP.
-     * The ticket is deleted after validation to prevent reuse.
+     * The ticket is atomically read and deleted to prevent reuse.
      *
      * @param ticket the ticket string to validate
      * @param clientIp the client's IP address
      * @return true if the ticket is valid and matches the client IP; false otherwise
      */
     public boolean validateTicket(String ticket, String clientIp) {
-        ValueOperations<String, String> ops = redisTemplate.opsForValue();
-        String value = ops.get(ticket);
-        System.out.println("Validando ticket: " + ticket + " para IP: " + clientIp + " valor en Redis: " + value);
-        if (value == null) return false;
-        String[] parts = value.split(":");
+        if (ticket == null || ticket.length() != 36 || !UUID_PATTERN.matcher(ticket).matches()) {
+            rejectedMalformed.increment();
+            return false;
+        }
+        if (isRecentlyRejected(ticket)) {
+            rejectedCached.increment();
+            return false;
+        }
+
+        String value;
+        long start = System.nanoTime();
+        try {
+            value = batcher != null
+                    ? (String) await(batcher.redeem(ticket))
+                    : redisTemplate.opsForValue().getAndDelete(ticket);
+        } catch (RuntimeException e) {
+            redisErrors.increment();
+            logger.log(Level.WARNING, "Error validating ticket", e);
+            return false;
+        } finally {
+            recordWait(start);
+        }
+
+        logger.log(Level.FINE, "Validating ticket for IP {0}, found: {1}", new Object[]{clientIp, value != null});
+        if (value == null) {
+            rememberRejected(ticket);
+            rejectedRedis.increment();
+            return false;
+        }
+        //String[] parts = value.split(":");
         //if (parts.length != 2) return false;
         // if (!parts[1].equals(clientIp)) return false; // Validate IP if needed
-        redisTemplate.delete(ticket); // Prevent reuse
+        validated.increment();
         return true;
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns a snapshot of the ticket counters, caller wait times and Redis latency figures.
+     * Caller wait covers the whole call, including the batching window and queueing behind
+     * earlier pipelines; Redis latency covers only the round-trips, which are the pipelines
+     * when batching is enabled and the individual commands otherwise.
+     *
+     * @return an ordered map of metric name to value
+     */
+    public Map<String, Long> getMetrics() {
+        long calls = callerCalls.sum();
+        long waitNanos = callerWaitNanos.sum();
+        long maxWaitNanos = callerMaxWaitNanos.get();
+        long redisCalls = batcher != null ? batcher.getBatches() : calls;
+        long redisNanos = batcher != null ? batcher.getPipelineNanos() : waitNanos;
+        long redisMaxNanos = batcher != null ? batcher.getMaxPipelineNanos() : maxWaitNanos;
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("issued", issued.sum());
+        metrics.put("validated", validated.sum());
+        metrics.put("rejectedMalformed", rejectedMalformed.sum());
+        metrics.put("rejectedCached", rejectedCached.sum());
+        metrics.put("rejectedRedis", rejectedRedis.sum());
+        metrics.put("redisErrors", redisErrors.sum());
+        metrics.put("callerCalls", calls);
+        metrics.put("callerAvgWaitMicros", calls == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(waitNanos / calls));
+        metrics.put("callerMaxWaitMicros", TimeUnit.NANOSECONDS.toMicros(maxWaitNanos));
+        metrics.put("redisCalls", redisCalls);
+        metrics.put("redisAvgLatencyMicros", redisCalls == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(redisNanos / redisCalls));
+        metrics.put("redisMaxLatencyMicros", TimeUnit.NANOSECONDS.toMicros(redisMaxNanos));
+        metrics.put("pipelineBatches", batcher != null ? batcher.getBatches() : 0);
+        metrics.put("pipelineCommands", batcher != null ? batcher.getBatchedOps() : 0);
+        metrics.put("pipelineSkipped", batcher != null ? batcher.getSkippedOps() : 0);
+        return metrics;
+    }
+
+    /**
+     * Flushes pending batched operations on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (batcher != null) {
+            batcher.shutdown();
+        }
+    }
+
+    /**
+     * Waits for a batched operation. On timeout the op is cancelled if it is still queued,
+     * so the batcher drops it instead of running it after the caller gave up. If a pipeline
+     * already claimed it, the command reaches Redis anyway, so the caller waits for its result.
+     */
+    private Object await(TicketBatcher.Op op) {
+        CompletableFuture<Object> future = op.result();
+        try {
+            try {
+                return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (op.cancel()) {
+                    throw new IllegalStateException("Timed out waiting for ticket batch", e);
+                }
+                return future.get();
+            }
+        } catch (InterruptedException e) {
+            op.cancel();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for ticket batch", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Ticket batch failed", e.getCause());
+        }
+    }
+
+    private void recordWait(long start) {
+        long elapsed = System.nanoTime() - start;
+        callerCalls.increment();
+        callerWaitNanos.add(elapsed);
+        callerMaxWaitNanos.accumulateAndGet(elapsed, Math::max);
+    }
+
+    private boolean isRecentlyRejected(String ticket) {
+        Long expiresAt = recentlyRejected.get(ticket);
+        if (expiresAt == null) return false;
+        if (expiresAt - System.nanoTime() > 0) return true;
+        recentlyRejected.remove(ticket, expiresAt);
+        return false;
+    }
+
+    private void rememberRejected(String ticket) {
+        if (negativeTtlNanos <= 0 || negativeMaxEntries <= 0) return;
+        long now = System.nanoTime();
+        if (recentlyRejected.size() >= negativeMaxEntries) {
+            recentlyRejected.values().removeIf(expiresAt -> expiresAt - now <= 0);
+            if (recentlyRejected.size() >= negativeMaxEntries) {
+                recentlyRejected.clear();
+            }
+        }
+        recentlyRejected.put(ticket, now + negativeTtlNanos);
+    }
+}
@@ -0,0 +1,91 @@
+package edu.demo.board;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Hashed timing wheel of deadlines.
+ * Items are placed in the slot of their deadline tick and each advance only visits
+ * the slots that elapsed since the previous one. Deadlines are read lazily from the
+ * items themselves, so pushing a deadline back is a plain field write: when the old
+ * slot comes around, an item whose deadline moved is simply re-slotted instead of expired.
+ *
+ * @param <T> the scheduled item type
+ */
+public class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final List<Set<T>> slots;
+    private final ToLongFunction<T> deadline;
+    private volatile long lastTick;
+
+    /**
+     * Constructs the wheel.
+     * @param tickMillis the duration of one slot, in milliseconds
+     * @param slotCount the number of slots
+     * @param deadline extracts the current deadline, in milliseconds, of an item
+     * @param nowMillis the current time, in milliseconds
+     */
+    public TimingWheel(long tickMillis, int slotCount, ToLongFunction<T> deadline, long nowMillis) {
+        this.tickMillis = Math.max(1, tickMillis);
+        this.deadline = deadline;
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(ConcurrentHashMap.newKeySet());
+        }
+        this.lastTick = nowMillis / this.tickMillis;
+    }
+
+    /**
+     * Places the item in the slot of its current deadline.
+     *
+     * @param item the item to schedule
+     */
+    public void schedule(T item) {
+        long tick = Math.max(deadline.applyAsLong(item) / tickMillis, lastTick + 1);
+        slots.get((int) (tick % slots.size())).add(item);
+    }
+
+    /**
+     * Visits every slot elapsed since the last advance, handing expired items to the callback
+     * and re-slotting items whose deadline has moved forward. If the callback throws, the items
+     * not handled yet are put back in the wheel before the exception propagates, so they are
+     * visited again by the next advance.
+     *
+     * @param nowMillis the current time, in milliseconds
+     * @param expired callback invoked once per expired item
+     */
+    public void advance(long nowMillis, Consumer<T> expired) {
+        long currentTick = nowMillis / tickMillis;
+        long from = Math.max(lastTick + 1, currentTick - slots.size() + 1);
+        List<T> due = new ArrayList<>();
+        for (long tick = from; tick <= currentTick; tick++) {
+            Iterator<T> it = slots.get((int) (tick % slots.size())).iterator();
+            while (it.hasNext()) {
+                due.add(it.next());
+                it.remove();
+            }
+        }
+        lastTick = Math.max(lastTick, currentTick);
+        for (int i = 0; i < due.size(); i++) {
+            T item = due.get(i);
+            if (deadline.applyAsLong(item) > nowMillis) {
+                schedule(item);
+                continue;
+            }
+            try {
+                expired.accept(item);
+            } catch (RuntimeException e) {
+                for (T pending : due.subList(i + 1, due.size())) {
+                    schedule(pending);
+                }
+                throw e;
+            }
+        }
+    }
+}
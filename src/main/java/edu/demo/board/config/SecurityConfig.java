@@ -13,7 +13,7 @@ import java.util.List;
 
 /**
  * Spring Security configuration for the application.
- * Secures the /api/ws-ticket endpoint (requires authentication).
+ * Secures the /api/ws-ticket and /api/admin/** endpoints (require authentication).
  * Configures OAuth2 Resource Server with JWT support.
  * Configures CORS for frontend access.
  */
@@ -34,7 +34,7 @@ public class SecurityConfig {
                 .cors()
                 .and()
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/api/ws-ticket").authenticated()
+                        .requestMatchers("/api/ws-ticket", "/api/admin/**").authenticated()
                         .anyRequest().permitAll()
                 )
                 .oauth2ResourceServer(oauth2 -> oauth2
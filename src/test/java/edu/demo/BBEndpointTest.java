@@ -2,8 +2,10 @@ package edu.demo;
 
 
 import edu.demo.board.BBEndpoint;
+import edu.demo.board.SessionReaper;
 import edu.demo.board.TicketService;
 import jakarta.websocket.CloseReason;
+import jakarta.websocket.PongMessage;
 import jakarta.websocket.RemoteEndpoint;
 import jakarta.websocket.Session;
 import org.junit.jupiter.api.Assertions;
@@ -13,6 +15,8 @@ import org.mockito.*;
 
 import java.io.IOException;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.mockito.Mockito.*;
 import org.mockito.InOrder;
@@ -31,6 +35,9 @@ public class BBEndpointTest {
     @InjectMocks
     private BBEndpoint bbEndpoint;
 
+    private AtomicLong now;
+    private SessionReaper reaper;
+
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
@@ -38,8 +45,12 @@ public class BBEndpointTest {
         BBEndpoint.clearQueue();
         bbEndpoint = new BBEndpoint();
         bbEndpoint.setTicketService(ticketService);
+        now = new AtomicLong(0);
+        reaper = new SessionReaper(1000, 10000, 30000, 10000, now::get, Runnable::run);
+        bbEndpoint.setSessionReaper(reaper);
 
         when(session.getBasicRemote()).thenReturn(remote);
+        when(session.getId()).thenReturn("session-1");
         when(session.getRequestURI()).thenReturn(URI.create("ws://localhost:8080/bbService"));
     }
 
@@ -121,6 +132,55 @@ public class BBEndpointTest {
         Assertions.assertFalse(BBEndpoint.queueContains(session));
     }
 
+    @Test
+    void testPongAfterPingKeepsSessionOpen() throws IOException {
+        when(ticketService.validateTicket("valid-ticket", "localhost")).thenReturn(true);
+        bbEndpoint.openConnection(session, null);
+        bbEndpoint.processMessage("{\"ticket\":\"valid-ticket\"}", session);
+
+        now.set(30000);
+        reaper.tick();
+        verify(remote).sendPing(any(ByteBuffer.class));
+
+        now.set(35000);
+        bbEndpoint.processPong(mock(PongMessage.class), session);
+        now.set(40000);
+        reaper.tick();
+
+        verify(session, never()).close(any(CloseReason.class));
+        Assertions.assertTrue(BBEndpoint.queueContains(session));
+    }
+
+    @Test
+    void testMissingPongClosesSession() throws IOException {
+        when(ticketService.validateTicket("valid-ticket", "localhost")).thenReturn(true);
+        bbEndpoint.openConnection(session, null);
+        bbEndpoint.processMessage("{\"ticket\":\"valid-ticket\"}", session);
+
+        now.set(30000);
+        reaper.tick();
+        now.set(40000);
+        reaper.tick();
+
+        verify(session).close(any(CloseReason.class));
+        Assertions.assertFalse(BBEndpoint.queueContains(session));
+    }
+
+    @Test
+    void testTicketAfterReapDoesNotAuthenticate() throws IOException {
+        when(ticketService.validateTicket("valid-ticket", "localhost")).thenReturn(true);
+        bbEndpoint.openConnection(session, null);
+        BBEndpoint.addDrawHistory("{\"type\":\"draw\",\"x\":1,\"y\":2}");
+
+        now.set(10000);
+        reaper.tick();
+        bbEndpoint.processMessage("{\"ticket\":\"valid-ticket\"}", session);
+
+        verify(session).close(any(CloseReason.class));
+        verify(remote, never()).sendText(anyString());
+        Assertions.assertFalse(BBEndpoint.queueContains(session));
+    }
+
     @Test
     void testErrorRemovesSession() {
         bbEndpoint.openConnection(session, null);
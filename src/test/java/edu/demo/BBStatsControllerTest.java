@@ -0,0 +1,37 @@
+package edu.demo;
+
+import edu.demo.board.BBStatsController;
+import edu.demo.board.BoardStats;
+import edu.demo.board.SessionReaper;
+import edu.demo.board.TicketService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Map;
+
+class BBStatsControllerTest {
+
+    @Test
+    void testGetStatsReturnsBoardsTicketsAndHeartbeat() {
+        BoardStats boardStats = new BoardStats();
+        boardStats.sessionOpened();
+        TicketService ticketService = mock(TicketService.class);
+        when(ticketService.getMetrics()).thenReturn(Map.of("issued", 3L));
+        SessionReaper sessionReaper = mock(SessionReaper.class);
+        when(sessionReaper.getMetrics()).thenReturn(Map.of("pingsSent", 2L));
+        BBStatsController controller = new BBStatsController(boardStats, ticketService, sessionReaper);
+
+        ResponseEntity<Map<String, Object>> response = controller.getStats();
+
+        assertEquals(200, response.getStatusCode().value());
+        List<?> boards = (List<?>) response.getBody().get("boards");
+        assertEquals(1, boards.size());
+        assertEquals(1L, ((Map<?, ?>) boards.get(0)).get("sessions"));
+        assertEquals(Map.of("issued", 3L), response.getBody().get("tickets"));
+        assertEquals(Map.of("pingsSent", 2L), response.getBody().get("heartbeat"));
+    }
+}
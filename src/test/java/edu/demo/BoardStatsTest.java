@@ -0,0 +1,151 @@
+package edu.demo;
+
+import edu.demo.board.BoardStats;
+import edu.demo.board.SlidingWindowCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardStatsTest {
+
+    private AtomicLong now;
+    private BoardStats stats;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(1_000_000L);
+        stats = new BoardStats(new SlidingWindowCounter(60, now::get), new SlidingWindowCounter(60, now::get));
+    }
+
+    @Test
+    void testSessionCounts() {
+        stats.sessionOpened();
+        stats.sessionOpened();
+        stats.sessionAuthenticated();
+
+        Map<String, Object> board = stats.snapshot();
+        assertEquals(2L, board.get("sessions"));
+        assertEquals(1L, board.get("authenticatedSessions"));
+        assertEquals(1L, board.get("pendingSessions"));
+
+        stats.authenticatedSessionClosed();
+        stats.sessionClosed();
+        board = stats.snapshot();
+        assertEquals(1L, board.get("sessions"));
+        assertEquals(0L, board.get("authenticatedSessions"));
+
+        stats.sessionsCleared();
+        assertEquals(0L, stats.snapshot().get("sessions"));
+    }
+
+    @Test
+    void testHistorySizeAndMemoryEstimate() {
+        stats.historyAppended("{\"type\":\"draw\"}");
+        stats.historyAppended("{\"type\":\"draw\"}");
+
+        Map<String, Object> board = stats.snapshot();
+        assertEquals(2L, board.get("historyEvents"));
+        assertEquals(30L, board.get("historyChars"));
+        assertEquals(30L + 2 * 48L, board.get("historyMemoryEstimateBytes"));
+
+        stats.historyCleared();
+        board = stats.snapshot();
+        assertEquals(0L, board.get("historyEvents"));
+        assertEquals(0L, board.get("historyMemoryEstimateBytes"));
+    }
+
+    @Test
+    void testMemoryEstimateCountsTwoBytesPerCharBeyondLatin1() {
+        stats.historyAppended("{\"text\":\"\u2713\"}");
+
+        Map<String, Object> board = stats.snapshot();
+        assertEquals(12L, board.get("historyChars"));
+        assertEquals(24L + 48L, board.get("historyMemoryEstimateBytes"));
+    }
+
+    @Test
+    void testRatesSlideOutOfWindow() {
+        for (int i = 0; i < 10; i++) {
+            stats.messageReceived();
+        }
+
+        Map<?, ?> inbound = (Map<?, ?>) stats.snapshot().get("inboundPerSecond");
+        assertEquals(0.0, inbound.get("1s"), "the second in progress is not reported yet");
+
+        now.addAndGet(1_000);
+        inbound = (Map<?, ?>) stats.snapshot().get("inboundPerSecond");
+        assertEquals(10.0, inbound.get("1s"));
+        assertEquals(1.0, inbound.get("10s"));
+        assertEquals(10.0 / 60, inbound.get("60s"));
+
+        now.addAndGet(5_000);
+        inbound = (Map<?, ?>) stats.snapshot().get("inboundPerSecond");
+        assertEquals(0.0, inbound.get("1s"));
+        assertEquals(1.0, inbound.get("10s"));
+
+        now.addAndGet(54_000);
+        inbound = (Map<?, ?>) stats.snapshot().get("inboundPerSecond");
+        assertEquals(10.0 / 60, inbound.get("60s"), "a full 60s window still holds the oldest second");
+
+        now.addAndGet(1_000);
+        inbound = (Map<?, ?>) stats.snapshot().get("inboundPerSecond");
+        assertEquals(0.0, inbound.get("60s"));
+    }
+
+    @Test
+    void testSlowestConsumersKeepsSlowestAndForgetsClosed() {
+        for (int i = 1; i <= 7; i++) {
+            stats.consumerRegistered("session-" + i);
+            stats.messageSent("session-" + i, i * 1_000_000L);
+        }
+
+        List<?> slowest = (List<?>) stats.snapshot().get("slowestConsumers");
+        assertEquals(5, slowest.size());
+        assertEquals("session-7", ((Map<?, ?>) slowest.get(0)).get("session"));
+        assertEquals(7000L, ((Map<?, ?>) slowest.get(0)).get("avgSendMicros"));
+        assertEquals("session-3", ((Map<?, ?>) slowest.get(4)).get("session"));
+
+        now.addAndGet(1_000);
+        Map<?, ?> outbound = (Map<?, ?>) stats.snapshot().get("outboundPerSecond");
+        assertEquals(7.0, outbound.get("1s"));
+
+        stats.consumerRemoved("session-7");
+        slowest = (List<?>) stats.snapshot().get("slowestConsumers");
+        assertEquals(4, slowest.size());
+        assertEquals("session-6", ((Map<?, ?>) slowest.get(0)).get("session"));
+    }
+
+    @Test
+    void testSendAfterRemovalDoesNotResurrectConsumer() {
+        stats.consumerRegistered("session-1");
+        stats.consumerRemoved("session-1");
+
+        stats.messageSent("session-1", 5_000_000L);
+
+        assertTrue(((List<?>) stats.snapshot().get("slowestConsumers")).isEmpty());
+        now.addAndGet(1_000);
+        Map<?, ?> outbound = (Map<?, ?>) stats.snapshot().get("outboundPerSecond");
+        assertEquals(1.0, outbound.get("1s"));
+    }
+
+    @Test
+    void testLeaderboardIsUpdatedFromSampledSendsOnly() {
+        stats.consumerRegistered("session-1");
+        stats.messageSent("session-1", 1_000_000L);
+        for (int i = 1; i < 16; i++) {
+            stats.messageSent("session-1", 9_000_000L);
+        }
+
+        List<?> slowest = (List<?>) stats.snapshot().get("slowestConsumers");
+        assertEquals(1000L, ((Map<?, ?>) slowest.get(0)).get("avgSendMicros"));
+
+        stats.messageSent("session-1", 9_000_000L);
+        slowest = (List<?>) stats.snapshot().get("slowestConsumers");
+        assertTrue((Long) ((Map<?, ?>) slowest.get(0)).get("avgSendMicros") > 1000L);
+    }
+}
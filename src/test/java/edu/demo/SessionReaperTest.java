@@ -0,0 +1,194 @@
+package edu.demo;
+
+import edu.demo.board.BBEndpoint;
+import edu.demo.board.SessionReaper;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SessionReaperTest {
+
+    private AtomicLong now;
+    private SessionReaper reaper;
+    private Session session;
+    private RemoteEndpoint.Basic remote;
+
+    @BeforeEach
+    void setUp() {
+        BBEndpoint.clearQueue();
+        now = new AtomicLong(0);
+        reaper = new SessionReaper(1000, 10000, 30000, 10000, now::get, Runnable::run);
+        session = mock(Session.class);
+        remote = mock(RemoteEndpoint.Basic.class);
+        when(session.getId()).thenReturn("session-1");
+        when(session.getBasicRemote()).thenReturn(remote);
+    }
+
+    private void tickAt(long millis) {
+        now.set(millis);
+        reaper.tick();
+    }
+
+    private CloseReason.CloseCode closeCode() throws IOException {
+        ArgumentCaptor<CloseReason> reason = ArgumentCaptor.forClass(CloseReason.class);
+        verify(session).close(reason.capture());
+        return reason.getValue().getCloseCode();
+    }
+
+    @Test
+    void testUnauthenticatedSessionIsClosedAfterDeadline() throws IOException {
+        BBEndpoint.addToQueue(session);
+        reaper.sessionOpened(session);
+
+        tickAt(5000);
+        verify(session, never()).close(any(CloseReason.class));
+
+        tickAt(10000);
+        assertEquals(CloseReason.CloseCodes.VIOLATED_POLICY, closeCode());
+        assertFalse(BBEndpoint.queueContains(session));
+        assertEquals(1L, reaper.getMetrics().get("reapedUnauthenticated"));
+        assertEquals(0L, reaper.getMetrics().get("trackedSessions"));
+    }
+
+    @Test
+    void testSilentSessionIsPingedThenClosedOnMissedPong() throws IOException {
+        reaper.sessionOpened(session);
+        reaper.sessionAuthenticated(session);
+
+        tickAt(10000);
+        verify(remote, never()).sendPing(any(ByteBuffer.class));
+
+        tickAt(30000);
+        verify(remote, times(1)).sendPing(any(ByteBuffer.class));
+        verify(session, never()).close(any(CloseReason.class));
+
+        tickAt(40000);
+        assertEquals(CloseReason.CloseCodes.GOING_AWAY, closeCode());
+        assertEquals(1L, reaper.getMetrics().get("pingsSent"));
+        assertEquals(1L, reaper.getMetrics().get("reapedMissedPong"));
+    }
+
+    @Test
+    void testPongKeepsSessionAlive() throws IOException {
+        reaper.sessionOpened(session);
+        reaper.sessionAuthenticated(session);
+
+        tickAt(30000);
+        now.set(35000);
+        reaper.activity(session);
+
+        tickAt(40000);
+        tickAt(65000);
+
+        verify(remote, times(2)).sendPing(any(ByteBuffer.class));
+        verify(session, never()).close(any(CloseReason.class));
+    }
+
+    @Test
+    void testClosedSessionIsNotReaped() throws IOException {
+        reaper.sessionOpened(session);
+        reaper.sessionClosed(session);
+
+        tickAt(10000);
+
+        verify(session, never()).close(any(CloseReason.class));
+        assertEquals(0L, reaper.getMetrics().get("reapedUnauthenticated"));
+    }
+
+    @Test
+    void testFailedPingClosesSession() throws IOException {
+        doThrow(new IllegalStateException("closed")).when(remote).sendPing(any(ByteBuffer.class));
+        reaper.sessionOpened(session);
+        reaper.sessionAuthenticated(session);
+
+        tickAt(30000);
+
+        assertEquals(CloseReason.CloseCodes.GOING_AWAY, closeCode());
+    }
+
+    @Test
+    void testBlockedPingDoesNotDelayOtherReaping() throws Exception {
+        ExecutorService io = Executors.newFixedThreadPool(2);
+        SessionReaper asyncReaper = new SessionReaper(1000, 10000, 10000, 10000, now::get, io);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS)).when(remote).sendPing(any(ByteBuffer.class));
+
+        Session idle = mock(Session.class);
+        when(idle.getId()).thenReturn("session-2");
+        BBEndpoint.addToQueue(idle);
+
+        asyncReaper.sessionOpened(session);
+        asyncReaper.sessionAuthenticated(session);
+        asyncReaper.sessionOpened(idle);
+
+        now.set(10000);
+        assertTimeoutPreemptively(Duration.ofSeconds(1), asyncReaper::tick);
+
+        assertFalse(BBEndpoint.queueContains(idle));
+        verify(idle, timeout(1000)).close(any(CloseReason.class));
+        verify(remote, timeout(1000)).sendPing(any(ByteBuffer.class));
+
+        release.countDown();
+        io.shutdown();
+        assertTrue(io.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testRejectedCloseDoesNotDropOtherDueSessions() {
+        SessionReaper rejecting = new SessionReaper(1000, 10000, 30000, 10000, now::get, task -> {
+            throw new RejectedExecutionException("shut down");
+        });
+        Session other = mock(Session.class);
+        when(other.getId()).thenReturn("session-2");
+        BBEndpoint.addToQueue(session);
+        BBEndpoint.addToQueue(other);
+        rejecting.sessionOpened(session);
+        rejecting.sessionOpened(other);
+
+        now.set(10000);
+        assertDoesNotThrow(rejecting::tick);
+
+        assertFalse(BBEndpoint.queueContains(session));
+        assertFalse(BBEndpoint.queueContains(other));
+        assertEquals(2L, rejecting.getMetrics().get("reapedUnauthenticated"));
+    }
+
+    @Test
+    void testReapedSessionCannotAuthenticateUntilForgotten() throws IOException {
+        reaper.sessionOpened(session);
+
+        tickAt(10000);
+        assertEquals(CloseReason.CloseCodes.VIOLATED_POLICY, closeCode());
+        assertFalse(reaper.sessionAuthenticated(session));
+
+        tickAt(40000);
+        assertTrue(reaper.sessionAuthenticated(session));
+    }
+
+    @Test
+    void testClosedReapedSessionIsForgotten() {
+        reaper.sessionOpened(session);
+        tickAt(10000);
+
+        reaper.sessionClosed(session);
+
+        assertTrue(reaper.sessionAuthenticated(session));
+        assertEquals(0L, reaper.getMetrics().get("trackedSessions"));
+    }
+}
@@ -3,17 +3,36 @@ package edu.demo;
 import edu.demo.board.TicketService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class TicketServiceTest {
 
+    private static final String TICKET = "3f2b8c1e-9a4d-4e6f-8b7a-1c2d3e4f5a6b";
+    private static final String OTHER_TICKET = "8d7c6b5a-4e3f-4a2b-9c1d-0e9f8a7b6c5d";
+
     private StringRedisTemplate redisTemplate;
     private ValueOperations<String, String> valueOperations;
     private TicketService ticketService;
+    private RedisConnection connection;
+    private RedisStringCommands commands;
 
     @BeforeEach
     void setUp() {
@@ -21,6 +40,9 @@ class TicketServiceTest {
         valueOperations = mock(ValueOperations.class);
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
         ticketService = new TicketService(redisTemplate);
+        connection = mock(RedisConnection.class);
+        commands = mock(RedisStringCommands.class);
+        when(connection.stringCommands()).thenReturn(commands);
     }
 
     @Test
@@ -31,41 +53,161 @@ class TicketServiceTest {
 
         assertNotNull(ticket);
         verify(valueOperations, times(1)).set(eq(ticket), eq(userId + ":" + clientIp), eq(5L), eq(java.util.concurrent.TimeUnit.MINUTES));
+        assertEquals(1L, ticketService.getMetrics().get("issued"));
     }
 
     @Test
     void testValidateTicketReturnsTrueAndDeletesTicket() {
-        String ticket = "ticket-abc";
         String clientIp = "127.0.0.1";
-        when(valueOperations.get(ticket)).thenReturn("user123:" + clientIp);
+        when(valueOperations.getAndDelete(TICKET)).thenReturn("user123:" + clientIp);
 
-        boolean result = ticketService.validateTicket(ticket, clientIp);
+        boolean result = ticketService.validateTicket(TICKET, clientIp);
 
         assertTrue(result);
-        verify(redisTemplate, times(1)).delete(ticket);
+        verify(valueOperations, times(1)).getAndDelete(TICKET);
+        verify(redisTemplate, never()).delete(anyString());
     }
 
     @Test
     void testValidateTicketReturnsFalseIfTicketNotFound() {
-        String ticket = "ticket-xyz";
         String clientIp = "127.0.0.1";
-        when(valueOperations.get(ticket)).thenReturn(null);
+        when(valueOperations.getAndDelete(TICKET)).thenReturn(null);
 
-        boolean result = ticketService.validateTicket(ticket, clientIp);
+        boolean result = ticketService.validateTicket(TICKET, clientIp);
 
         assertFalse(result);
-        verify(redisTemplate, never()).delete(ticket);
+        assertEquals(1L, ticketService.getMetrics().get("rejectedRedis"));
     }
 
     @Test
     void testValidateTicketReturnsFalseIfFormatInvalid() {
-        String ticket = "ticket-abc";
         String clientIp = "127.0.0.1";
-        when(valueOperations.get(ticket)).thenReturn("invalidformat");
+        when(valueOperations.getAndDelete(TICKET)).thenReturn("invalidformat");
 
-        boolean result = ticketService.validateTicket(ticket, clientIp);
+        boolean result = ticketService.validateTicket(TICKET, clientIp);
 
         assertTrue(result);
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void testMalformedTicketIsRejectedWithoutRedis() {
+        assertFalse(ticketService.validateTicket("ticket-abc", "127.0.0.1"));
+        assertFalse(ticketService.validateTicket(null, "127.0.0.1"));
+
+        verifyNoInteractions(valueOperations);
+        assertEquals(2L, ticketService.getMetrics().get("rejectedMalformed"));
+    }
+
+    @Test
+    void testRecentlyRejectedTicketIsRejectedLocally() {
+        when(valueOperations.getAndDelete(TICKET)).thenReturn(null);
+
+        assertFalse(ticketService.validateTicket(TICKET, "127.0.0.1"));
+        assertFalse(ticketService.validateTicket(TICKET, "127.0.0.1"));
+
+        verify(valueOperations, times(1)).getAndDelete(TICKET);
+        assertEquals(1L, ticketService.getMetrics().get("rejectedCached"));
+    }
+
+    @Test
+    void testValidateTicketReturnsFalseOnRedisError() {
+        when(valueOperations.getAndDelete(TICKET)).thenThrow(new IllegalStateException("down"));
+
+        assertFalse(ticketService.validateTicket(TICKET, "127.0.0.1"));
+        assertEquals(1L, ticketService.getMetrics().get("redisErrors"));
+    }
+
+    @Test
+    void testBatchedValidateUsesPipelinedGetDel() {
+        TicketService batched = new TicketService(redisTemplate, 1, 64, 2000, 30000, 10000);
+        stubPipeline("user123:127.0.0.1");
+
+        assertTrue(batched.validateTicket(TICKET, "127.0.0.1"));
+
+        verify(commands).getDel(TICKET.getBytes(StandardCharsets.UTF_8));
+        verifyNoInteractions(valueOperations);
+        assertEquals(1L, batched.getMetrics().get("pipelineBatches"));
+        assertEquals(1L, batched.getMetrics().get("redisCalls"));
+        batched.shutdown();
+    }
+
+    @Test
+    void testBatchedGenerateUsesPipelinedSet() {
+        TicketService batched = new TicketService(redisTemplate, 1, 64, 2000, 30000, 10000);
+        stubPipeline(true);
+
+        String ticket = batched.generateTicket("user123", "127.0.0.1");
+
+        verify(commands).set(eq(ticket.getBytes(StandardCharsets.UTF_8)),
+                eq("user123:127.0.0.1".getBytes(StandardCharsets.UTF_8)),
+                any(Expiration.class), eq(RedisStringCommands.SetOption.upsert()));
+        batched.shutdown();
+    }
+
+    @Test
+    void testBatchedGenerateFailsWhenPipelineFails() {
+        TicketService batched = new TicketService(redisTemplate, 1, 64, 2000, 30000, 10000);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenThrow(new IllegalStateException("down"));
+
+        assertThrows(IllegalStateException.class, () -> batched.generateTicket("user123", "127.0.0.1"));
+        assertEquals(1L, batched.getMetrics().get("redisErrors"));
+        batched.shutdown();
+    }
+
+    @Test
+    void testTimedOutRedeemIsDroppedFromLaterPipeline() throws Exception {
+        TicketService batched = new TicketService(redisTemplate, 1, 64, 100, 30000, 10000);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenAnswer(invocation -> {
+                    entered.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return runPipeline(invocation, "user123:127.0.0.1");
+                })
+                .thenAnswer(invocation -> runPipeline(invocation, "user123:127.0.0.1"));
+
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        Future<Boolean> first = caller.submit(() -> batched.validateTicket(OTHER_TICKET, "127.0.0.1"));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        assertFalse(batched.validateTicket(TICKET, "127.0.0.1"));
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+
+        verify(commands, after(200).never()).getDel(TICKET.getBytes(StandardCharsets.UTF_8));
+        assertEquals(1L, batched.getMetrics().get("pipelineSkipped"));
+        caller.shutdown();
+        batched.shutdown();
+    }
+
+    @Test
+    void testTimeoutWhileOwnOpIsInPipelineWaitsForResult() {
+        TicketService batched = new TicketService(redisTemplate, 1, 64, 100, 30000, 10000);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return runPipeline(invocation, "user123:127.0.0.1");
+        });
+
+        long start = System.nanoTime();
+        assertTrue(batched.validateTicket(TICKET, "127.0.0.1"));
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 300);
+        verify(commands).getDel(TICKET.getBytes(StandardCharsets.UTF_8));
+        assertEquals(0L, batched.getMetrics().get("redisErrors"));
+        assertEquals(0L, batched.getMetrics().get("pipelineSkipped"));
+        batched.shutdown();
+    }
+
+    private void stubPipeline(Object reply) {
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenAnswer(invocation -> runPipeline(invocation, reply));
+    }
+
+    private List<Object> runPipeline(InvocationOnMock invocation, Object reply) {
+        RedisCallback<?> callback = invocation.getArgument(0);
+        callback.doInRedis(connection);
+        return Collections.singletonList(reply);
+    }
+}
@@ -0,0 +1,45 @@
+package edu.demo;
+
+import edu.demo.board.TimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    @Test
+    void testMovedDeadlineIsReslottedInsteadOfExpired() {
+        AtomicLong deadline = new AtomicLong(5000);
+        TimingWheel<AtomicLong> wheel = new TimingWheel<>(1000, 8, AtomicLong::get, 0);
+        List<AtomicLong> expired = new ArrayList<>();
+        wheel.schedule(deadline);
+
+        deadline.set(9000);
+        wheel.advance(5000, expired::add);
+        assertTrue(expired.isEmpty());
+
+        wheel.advance(9000, expired::add);
+        assertEquals(List.of(deadline), expired);
+    }
+
+    @Test
+    void testItemsAfterFailingCallbackStayScheduled() {
+        TimingWheel<AtomicLong> wheel = new TimingWheel<>(1000, 8, AtomicLong::get, 0);
+        AtomicLong first = new AtomicLong(1000);
+        AtomicLong second = new AtomicLong(1000);
+        wheel.schedule(first);
+        wheel.schedule(second);
+
+        assertThrows(IllegalStateException.class, () -> wheel.advance(1000, item -> {
+            throw new IllegalStateException("callback failed");
+        }));
+
+        List<AtomicLong> expired = new ArrayList<>();
+        wheel.advance(2000, expired::add);
+        assertEquals(1, expired.size());
+    }
+}